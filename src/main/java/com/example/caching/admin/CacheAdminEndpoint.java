@@ -0,0 +1,130 @@
+package com.example.caching.admin;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.example.caching.model.CustomEntity;
+import com.example.caching.services.CachingService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache introspection and targeted invalidation across both cache layers:
+ * the bounded local LRU map in {@link CachingService} and the Spring
+ * "entities" cache that answers repeat reads. Clearing goes through
+ * {@link #clearGradually} in batches, unlike POST /entities/clear-cache,
+ * so the database does not take every miss at once. A running clear is
+ * cancelled with DELETE /actuator/cacheadmin/clear.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "cacheadmin")
+@RequiredArgsConstructor
+public class CacheAdminEndpoint {
+
+    private static final int DEFAULT_HOT_KEYS = 10;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final long DEFAULT_PAUSE_MS = 50;
+    private static final String CLEAR = "clear";
+
+    private final CachingService cachingService;
+
+    private final AtomicReference<Thread> clearing = new AtomicReference<>();
+
+    @ReadOperation
+    public Map<String, Object> summary(@Nullable Integer hotKeys) {
+        if (hotKeys != null && hotKeys <= 0) {
+            String message = "hotKeys must be positive";
+            throw new InvalidEndpointRequestException(message, message);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("localCacheSize", cachingService.size());
+        summary.put("springCacheSize", cachingService.springCacheSize());
+        summary.put("clearing", clearing.get() != null);
+        summary.put("hotKeys", cachingService.hotKeys(hotKeys == null ? DEFAULT_HOT_KEYS : hotKeys));
+        summary.put("localCacheEntrySizes", cachingService.entrySizeHistogram());
+        summary.put("springCacheEntrySizes", cachingService.springCacheEntrySizeHistogram());
+        return summary;
+    }
+
+    // Returns null (404) when neither layer holds the id; never loads from the database
+    @ReadOperation
+    public Map<String, Object> entry(@Selector Long id) {
+        CustomEntity local = cachingService.peek(id).orElse(null);
+        CustomEntity spring = cachingService.peekSpringCache(id).orElse(null);
+        if (local == null && spring == null) {
+            return null;
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("localCache", local);
+        entry.put("springCache", spring);
+        return entry;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> invalidateRange(Long fromId, Long toId) {
+        try {
+            return Map.of("invalidated", cachingService.invalidateRange(fromId, toId));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidEndpointRequestException(ex.getMessage(), ex.getMessage());
+        }
+    }
+
+    // Evicts the ids cached when the clear starts, so keys re-populated by
+    // traffic meanwhile cannot keep it running
+    @WriteOperation
+    public Map<String, Object> clearGradually(@Nullable Integer batchSize, @Nullable Long pauseMs) {
+        int batch = batchSize == null ? DEFAULT_BATCH_SIZE : batchSize;
+        long pause = pauseMs == null ? DEFAULT_PAUSE_MS : pauseMs;
+        if (batch <= 0 || pause < 0) {
+            String message = "batchSize must be positive and pauseMs must not be negative";
+            throw new InvalidEndpointRequestException(message, message);
+        }
+        List<Long> ids = cachingService.cachedIds();
+        Thread worker = Thread.ofVirtual().name("cache-gradual-clear").unstarted(() -> {
+            try {
+                for (int from = 0; from < ids.size(); from += batch) {
+                    cachingService.evict(ids.subList(from, Math.min(from + batch, ids.size())));
+                    Thread.sleep(pause);
+                }
+                log.info("Gradual cache clear finished, evicted {} entities", ids.size());
+            } catch (InterruptedException ex) {
+                log.info("Gradual cache clear cancelled");
+            } catch (Exception ex) {
+                log.error("Gradual cache clear failed", ex);
+            } finally {
+                clearing.compareAndSet(Thread.currentThread(), null);
+            }
+        });
+        if (!clearing.compareAndSet(null, worker)) {
+            return Map.of("started", false);
+        }
+        worker.start();
+        return Map.of("started", true, "scheduled", ids.size());
+    }
+
+    @DeleteOperation
+    public Map<String, Object> cancelClear(@Selector String operation) {
+        if (!CLEAR.equals(operation)) {
+            String message = "Only the running '" + CLEAR + "' operation can be cancelled";
+            throw new InvalidEndpointRequestException(message, message);
+        }
+        Thread worker = clearing.get();
+        if (worker != null) {
+            worker.interrupt();
+        }
+        return Map.of("cancelled", worker != null);
+    }
+}
\ No newline at end of file
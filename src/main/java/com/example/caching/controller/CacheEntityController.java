@@ -1,18 +1,24 @@
 package com.example.caching.controller;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.caching.exception.CacheException;
 import com.example.caching.exception.EntityNotFoundException;
+import com.example.caching.exception.VersionConflictException;
 import com.example.caching.model.CustomEntity;
 import com.example.caching.services.CachingService;
 
@@ -30,6 +36,8 @@ public class CacheEntityController {
     public CustomEntity add(@RequestBody CustomEntity entity) {
         try {
             return cachingService.add(entity);
+        } catch (IllegalArgumentException ex) {
+            throw ex; 
         } catch (CacheException ex) {
             throw ex; 
         } catch (Exception ex) {
@@ -37,6 +45,28 @@ public class CacheEntityController {
         }
     }
 
+    @PutMapping("/{id}")
+    public ResponseEntity<CustomEntity> update(@PathVariable Long id, @RequestBody CustomEntity entity,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        try {
+            if (ifMatch == null) {
+                throw new IllegalArgumentException("If-Match header with the entity version is required");
+            }
+            CustomEntity updated = cachingService.update(id, entity.getData(), parseVersion(ifMatch));
+            return ResponseEntity.ok().eTag("\"" + updated.getVersion() + "\"").body(updated);
+        } catch (IllegalArgumentException ex) {
+            throw ex; 
+        } catch (EntityNotFoundException ex) {
+            throw ex; 
+        } catch (VersionConflictException ex) {
+            throw ex; 
+        } catch (CacheException ex) {
+            throw ex; 
+        } catch (Exception ex) {
+            throw new CacheException("Failed to update entity: " + ex.getMessage());
+        }
+    }
+
     @DeleteMapping("/{id}")
     public void remove(@PathVariable Long id) {
         try {
@@ -64,6 +94,7 @@ public class CacheEntityController {
     @GetMapping("/{id}")
     public Optional<CustomEntity> get(@PathVariable Long id) {
         try {
+            cachingService.recordAccess(id);
             Optional<CustomEntity> entity = cachingService.get(id);
             if (entity.isEmpty()) {
                 throw new EntityNotFoundException("Entity with ID " + id + " not found");
@@ -78,6 +109,30 @@ public class CacheEntityController {
         }
     }
 
+    @GetMapping("/search")
+    public List<CustomEntity> findByDataPrefix(@RequestParam String prefix) {
+        try {
+            return cachingService.findByDataPrefix(prefix);
+        } catch (CacheException ex) {
+            throw ex; 
+        } catch (Exception ex) {
+            throw new CacheException("Failed to search entities: " + ex.getMessage());
+        }
+    }
+
+    @GetMapping("/range")
+    public List<CustomEntity> findByDataRange(@RequestParam String from, @RequestParam String to) {
+        try {
+            return cachingService.findByDataRange(from, to);
+        } catch (IllegalArgumentException ex) {
+            throw ex; 
+        } catch (CacheException ex) {
+            throw ex; 
+        } catch (Exception ex) {
+            throw new CacheException("Failed to find entities in range: " + ex.getMessage());
+        }
+    }
+
     @PostMapping("/clear-cache")
     public void clearCache() {
         try {
@@ -88,4 +143,20 @@ public class CacheEntityController {
             throw new CacheException("Failed to clear cache: " + ex.getMessage());
         }
     }
+
+    // Accepts 3, "3" and W/"3"
+    private Long parseVersion(String ifMatch) {
+        String version = ifMatch.trim();
+        if (version.startsWith("W/")) {
+            version = version.substring(2);
+        }
+        if (version.length() >= 2 && version.startsWith("\"") && version.endsWith("\"")) {
+            version = version.substring(1, version.length() - 1);
+        }
+        try {
+            return Long.valueOf(version);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("If-Match must carry a numeric entity version");
+        }
+    }
 }
\ No newline at end of file
@@ -15,6 +15,12 @@ public class GlobalExceptionHandler {
         return "Entity not found: " + ex.getMessage();
     }
 
+    @ExceptionHandler(VersionConflictException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public String handleVersionConflictException(VersionConflictException ex) {
+        return "Version conflict: " + ex.getMessage();
+    }
+
     @ExceptionHandler(CacheException.class)
     @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
     public String handleCacheException(CacheException ex) {
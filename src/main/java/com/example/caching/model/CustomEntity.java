@@ -1,16 +1,21 @@
 package com.example.caching.model;
 
 import jakarta.annotation.Generated;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_custom_entity_data", columnList = "data"))
 @NoArgsConstructor
 @AllArgsConstructor
 public class CustomEntity {
@@ -18,4 +23,8 @@ public class CustomEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String data;
+    // The default backfills rows created before the column existed (ddl-auto=update)
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+    private Long version;
 }
@@ -1,5 +1,7 @@
 package com.example.caching.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,5 +10,8 @@ import com.example.caching.model.CustomEntity;
 @Repository
 public interface EntityRepository extends JpaRepository<CustomEntity, Long> {
 
-    
+    // Both queries are served by idx_custom_entity_data (see CustomEntity)
+    List<CustomEntity> findByDataStartingWithOrderByDataAsc(String prefix);
+
+    List<CustomEntity> findByDataBetweenOrderByDataAsc(String from, String to);
 }
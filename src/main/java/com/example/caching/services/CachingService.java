@@ -1,21 +1,35 @@
 package com.example.caching.services;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import com.example.caching.exception.CacheException;
 import com.example.caching.exception.EntityNotFoundException;
+import com.example.caching.exception.VersionConflictException;
 import com.example.caching.model.CustomEntity;
 import com.example.caching.repository.EntityRepository;
+import com.example.caching.tracing.OperationTrace;
+import com.example.caching.tracing.OperationTrace.Phase;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,53 +40,142 @@ public class CachingService {
     @Autowired
     private EntityRepository entityRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Value("${cache.max-elements}")
     private int maxElements;
 
+    // Access-ordered, so even get() restructures it; every access holds its monitor
     private final Map<Long, CustomEntity> cache = new LinkedHashMap<Long, CustomEntity>(maxElements, 0.75f, true) {
         @Override
         protected boolean removeEldestEntry(Map.Entry<Long, CustomEntity> eldest) {
-            if (size() > maxElements) {
-                evictToDatabase(eldest.getValue());
-                return true;
-            }
-            return false;
+            // Every write goes through to the database first, so evicted entries
+            // always match their rows and are dropped without a write
+            return size() > maxElements;
         }
     };
 
+    @Value("${cache.query-max-entries}")
+    private int maxQueryEntries;
 
-    private void evictToDatabase(CustomEntity entity) {
-        try {
-            entityRepository.save(entity); 
-            log.info("Evicted entity with ID {} to the database.", entity.getId());
-        } catch (Exception ex) {
-            log.error("Failed to evict entity with ID {} to the database: {}", entity.getId(), ex.getMessage());
-            throw new CacheException("Failed to evict entity to database");
-        }
+    private record PrefixQuery(String prefix) {
+    }
+
+    private record RangeQuery(String from, String to) {
     }
 
-    @CachePut(value = "entities", key = "#entity.id")
+    // Results of data queries, keyed by query. Dropped on every write. Guarded by
+    // its own monitor; queryGeneration stops a result loaded before a write from
+    // being stored after it.
+    private final Map<Object, List<CustomEntity>> queryCache = new LinkedHashMap<Object, List<CustomEntity>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, List<CustomEntity>> eldest) {
+            return size() > maxQueryEntries;
+        }
+    };
+
+    private long queryGeneration;
+
+    @Value("${cache.hot-keys.sample-rate}")
+    private int hotKeySampleRate;
+
+    private final HotKeySketch hotKeys = new HotKeySketch(1024, 4, 32);
+
+    @CachePut(value = "entities", key = "#result.id")
     public CustomEntity add(CustomEntity entity) {
-        log.info("Adding entity with ID: {}", entity.getId());
+        log.info("Adding new entity");
+        if (entity.getId() != null || entity.getVersion() != null) {
+            throw new IllegalArgumentException(
+                    "ID and version are assigned by the server, use PUT /entities/{id} with If-Match to update");
+        }
         try {
+            long start = System.nanoTime();
             CustomEntity savedEntity = entityRepository.save(entity);
-            cache.put(savedEntity.getId(), savedEntity);
+            OperationTrace.record(Phase.REPOSITORY, start);
+            synchronized (cache) {
+                cache.put(savedEntity.getId(), savedEntity);
+            }
+            invalidateQueries();
             return savedEntity;
         } catch (Exception ex) {
-            log.error("Failed to add entity with ID: {}", entity.getId(), ex);
+            log.error("Failed to add entity", ex);
             throw new CacheException("Failed to add entity to cache and database");
         }
     }
 
+    // Compare-and-set update: succeeds only if the entity is still at expectedVersion
+    @CachePut(value = "entities", key = "#id")
+    public CustomEntity update(Long id, String data, Long expectedVersion) {
+        log.info("Updating entity with ID: {} at version {}", id, expectedVersion);
+        try {
+            CustomEntity current;
+            synchronized (cache) {
+                current = cache.get(id);
+            }
+            if (current == null) {
+                long start = System.nanoTime();
+                Optional<CustomEntity> loaded = entityRepository.findById(id);
+                OperationTrace.record(Phase.REPOSITORY, start);
+                current = loaded.orElseThrow(
+                        () -> new EntityNotFoundException("Entity with ID " + id + " not found"));
+                if (!expectedVersion.equals(current.getVersion())) {
+                    throw new VersionConflictException("Entity with ID " + id + " is at version "
+                            + current.getVersion() + ", not " + expectedVersion);
+                }
+            } else if (!expectedVersion.equals(current.getVersion())) {
+                // A cached copy can lag the row (a read that loaded it raced a write) but
+                // never lead it, so only an older If-Match is known to be stale. Either
+                // way the cached copy disagrees with the client and is dropped.
+                invalidate(List.of(id));
+                if (current.getVersion() != null && expectedVersion < current.getVersion()) {
+                    throw new VersionConflictException("Entity with ID " + id + " is at version "
+                            + current.getVersion() + ", not " + expectedVersion);
+                }
+            }
+            // The database repeats the version check in the UPDATE. It decides when
+            // the cached copy was behind and catches writers that raced past the checks above
+            long start = System.nanoTime();
+            CustomEntity savedEntity = entityRepository.save(new CustomEntity(id, data, expectedVersion));
+            OperationTrace.record(Phase.REPOSITORY, start);
+            synchronized (cache) {
+                cache.put(id, savedEntity);
+            }
+            invalidateQueries();
+            return savedEntity;
+        } catch (EntityNotFoundException ex) {
+            log.error("Entity not found: {}", ex.getMessage());
+            throw ex;
+        } catch (VersionConflictException ex) {
+            log.warn("Rejected stale update: {}", ex.getMessage());
+            throw ex;
+        } catch (OptimisticLockingFailureException ex) {
+            log.warn("Concurrent update of entity with ID: {}", id);
+            invalidate(List.of(id));
+            throw new VersionConflictException("Entity with ID " + id + " was modified concurrently");
+        } catch (Exception ex) {
+            log.error("Failed to update entity with ID: {}", id, ex);
+            throw new CacheException("Failed to update entity in cache and database");
+        }
+    }
+
     @CacheEvict(value = "entities", key = "#id")
     public void remove(Long id) {
         log.info("Removing entity with ID: {}", id);
         try {
-            if (!entityRepository.existsById(id)) {
+            long start = System.nanoTime();
+            boolean exists = entityRepository.existsById(id);
+            if (exists) {
+                entityRepository.deleteById(id);
+            }
+            OperationTrace.record(Phase.REPOSITORY, start);
+            if (!exists) {
                 throw new EntityNotFoundException("Entity with ID " + id + " not found");
             }
-            entityRepository.deleteById(id);
-            cache.remove(id);
+            synchronized (cache) {
+                cache.remove(id);
+            }
+            invalidateQueries();
         } catch (EntityNotFoundException ex) {
             log.error("Entity not found: {}", ex.getMessage());
             throw ex;
@@ -87,7 +190,10 @@ public class CachingService {
         log.info("Removing all entities");
         try {
             entityRepository.deleteAll();
-            cache.clear(); 
+            synchronized (cache) {
+                cache.clear();
+            }
+            invalidateQueries();
         } catch (Exception ex) {
             log.error("Failed to remove all entities", ex);
             throw new CacheException("Failed to remove all entities from cache and database");
@@ -98,14 +204,24 @@ public class CachingService {
     public Optional<CustomEntity> get(Long id) {
         log.info("Getting entity with ID: {}", id);
         try {
-            if (cache.containsKey(id)) {
-                return Optional.of(cache.get(id));
+            long start = System.nanoTime();
+            CustomEntity cached;
+            synchronized (cache) {
+                cached = cache.get(id);
+            }
+            OperationTrace.record(Phase.CACHE_LOOKUP, start);
+            if (cached != null) {
+                return Optional.of(cached);
             }
+            start = System.nanoTime();
             Optional<CustomEntity> entity = entityRepository.findById(id);
+            OperationTrace.record(Phase.REPOSITORY, start);
             if (entity.isEmpty()) {
                 throw new EntityNotFoundException("Entity with ID " + id + " not found");
             }
-            cache.put(id, entity.get());
+            synchronized (cache) {
+                cache.put(id, entity.get());
+            }
             return entity;
         } catch (EntityNotFoundException ex) {
             log.error("Entity not found: {}", ex.getMessage());
@@ -120,7 +236,10 @@ public class CachingService {
     public void clear() {
         log.info("Clearing cache");
         try {
-            cache.clear();
+            synchronized (cache) {
+                cache.clear();
+            }
+            invalidateQueries();
         } catch (Exception ex) {
             log.error("Failed to clear cache", ex);
             throw new CacheException("Failed to clear cache");
@@ -134,8 +253,10 @@ public class CachingService {
             if (entities.isEmpty()) {
                 throw new EntityNotFoundException("No entities found");
             }
-            for (CustomEntity entity : entities) {
-                cache.put(entity.getId(), entity);
+            synchronized (cache) {
+                for (CustomEntity entity : entities) {
+                    cache.put(entity.getId(), entity);
+                }
             }
             return entities;
         } catch (EntityNotFoundException ex) {
@@ -146,4 +267,205 @@ public class CachingService {
             throw new CacheException("Failed to retrieve all entities from database");
         }
     }
+
+    public List<CustomEntity> findByDataPrefix(String prefix) {
+        log.info("Finding entities with data prefix: {}", prefix);
+        try {
+            return cachedQuery(new PrefixQuery(prefix),
+                    () -> entityRepository.findByDataStartingWithOrderByDataAsc(prefix));
+        } catch (Exception ex) {
+            log.error("Failed to find entities with data prefix: {}", prefix, ex);
+            throw new CacheException("Failed to find entities by data prefix");
+        }
+    }
+
+    public List<CustomEntity> findByDataRange(String from, String to) {
+        log.info("Finding entities with data between {} and {}", from, to);
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("Range start must not be after range end");
+        }
+        try {
+            return cachedQuery(new RangeQuery(from, to),
+                    () -> entityRepository.findByDataBetweenOrderByDataAsc(from, to));
+        } catch (Exception ex) {
+            log.error("Failed to find entities with data between {} and {}", from, to, ex);
+            throw new CacheException("Failed to find entities by data range");
+        }
+    }
+
+    private List<CustomEntity> cachedQuery(Object query, Supplier<List<CustomEntity>> loader) {
+        long generation;
+        synchronized (queryCache) {
+            List<CustomEntity> cached = queryCache.get(query);
+            if (cached != null) {
+                return cached;
+            }
+            generation = queryGeneration;
+        }
+        List<CustomEntity> result = List.copyOf(loader.get());
+        synchronized (queryCache) {
+            if (generation == queryGeneration) {
+                queryCache.put(query, result);
+            }
+        }
+        return result;
+    }
+
+    private void invalidateQueries() {
+        synchronized (queryCache) {
+            queryCache.clear();
+            queryGeneration++;
+        }
+    }
+
+    public void recordAccess(Long id) {
+        if (hotKeySampleRate <= 1 || ThreadLocalRandom.current().nextInt(hotKeySampleRate) == 0) {
+            hotKeys.add(id);
+        }
+    }
+
+    public List<HotKeySketch.HotKey> hotKeys(int limit) {
+        return hotKeys.top(limit);
+    }
+
+    // Local LRU map only. Walks the entries instead of calling get(), which would
+    // move the entry to most recently used; the map is bounded by cache.max-elements.
+    public Optional<CustomEntity> peek(Long id) {
+        synchronized (cache) {
+            for (Map.Entry<Long, CustomEntity> entry : cache.entrySet()) {
+                if (entry.getKey().equals(id)) {
+                    return Optional.of(entry.getValue());
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Spring "entities" cache, the layer that answers repeat reads through @Cacheable
+    public Optional<CustomEntity> peekSpringCache(Long id) {
+        Cache springCache = cacheManager.getCache("entities");
+        Cache.ValueWrapper wrapper = springCache == null ? null : springCache.get(id);
+        if (wrapper != null && wrapper.get() instanceof CustomEntity entity) {
+            return Optional.of(entity);
+        }
+        return Optional.empty();
+    }
+
+    // Local LRU map only, bounded by cache.max-elements
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public int springCacheSize() {
+        return springCacheEntries().size();
+    }
+
+    // Local LRU map only. Entry count per estimated payload size, bucketed by powers of two bytes
+    public Map<String, Integer> entrySizeHistogram() {
+        List<CustomEntity> entities;
+        synchronized (cache) {
+            entities = new ArrayList<>(cache.values());
+        }
+        return sizeHistogram(entities);
+    }
+
+    // Same buckets over the Spring cache, which holds most cached entries
+    public Map<String, Integer> springCacheEntrySizeHistogram() {
+        return sizeHistogram(springCacheEntries().values());
+    }
+
+    private Map<String, Integer> sizeHistogram(Collection<?> values) {
+        Map<Integer, Integer> buckets = new TreeMap<>();
+        for (Object value : values) {
+            if (!(value instanceof CustomEntity entity)) {
+                continue;
+            }
+            int bytes = entity.getData() == null ? 0 : entity.getData().getBytes(StandardCharsets.UTF_8).length;
+            int bucket = bytes <= 16 ? 16 : Integer.highestOneBit(bytes - 1) << 1;
+            buckets.merge(bucket, 1, Integer::sum);
+        }
+        Map<String, Integer> histogram = new LinkedHashMap<>();
+        buckets.forEach((bucket, count) -> histogram.put("<=" + bucket + "B", count));
+        return histogram;
+    }
+
+    // Drops every id in the range from both the local LRU map and the Spring cache
+    public int invalidateRange(Long fromId, Long toId) {
+        log.info("Invalidating cached entities with ID between {} and {}", fromId, toId);
+        if (fromId > toId) {
+            throw new IllegalArgumentException("Range start must not be after range end");
+        }
+        try {
+            Set<Long> ids = new LinkedHashSet<>();
+            synchronized (cache) {
+                for (Long id : cache.keySet()) {
+                    if (id >= fromId && id <= toId) {
+                        ids.add(id);
+                    }
+                }
+            }
+            for (Object key : springCacheEntries().keySet()) {
+                if (key instanceof Long id && id >= fromId && id <= toId) {
+                    ids.add(id);
+                }
+            }
+            invalidate(ids);
+            return ids.size();
+        } catch (Exception ex) {
+            log.error("Failed to invalidate entities with ID between {} and {}", fromId, toId, ex);
+            throw new CacheException("Failed to invalidate cache range");
+        }
+    }
+
+    // Snapshot of the ids held by either cache layer, least recently used local
+    // entries first, then ids held only by the Spring cache
+    public List<Long> cachedIds() {
+        Set<Long> ids = new LinkedHashSet<>();
+        synchronized (cache) {
+            ids.addAll(cache.keySet());
+        }
+        for (Object key : springCacheEntries().keySet()) {
+            if (key instanceof Long id) {
+                ids.add(id);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    // Drops the given ids from both cache layers
+    public void evict(Collection<Long> ids) {
+        try {
+            invalidate(ids);
+        } catch (Exception ex) {
+            log.error("Failed to evict batch of {} entities", ids.size(), ex);
+            throw new CacheException("Failed to evict cache batch");
+        }
+    }
+
+    private void invalidate(Collection<Long> ids) {
+        Cache springCache = cacheManager.getCache("entities");
+        for (Long id : ids) {
+            synchronized (cache) {
+                cache.remove(id);
+            }
+            if (springCache != null) {
+                springCache.evict(id);
+            }
+        }
+    }
+
+    // The default ConcurrentMapCacheManager backs each cache with a ConcurrentMap,
+    // whose key iteration is safe alongside concurrent reads and writes
+    private Map<?, ?> springCacheEntries() {
+        Cache springCache = cacheManager.getCache("entities");
+        if (springCache == null) {
+            return Map.of();
+        }
+        if (springCache.getNativeCache() instanceof Map<?, ?> entries) {
+            return entries;
+        }
+        throw new CacheException("The entities cache provider does not expose its keys");
+    }
 }
\ No newline at end of file
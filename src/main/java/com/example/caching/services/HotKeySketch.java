@@ -0,0 +1,81 @@
+package com.example.caching.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Count-min sketch over entity ids plus a small set of top candidates, so
+ * hot keys can be reported without keeping a counter per key. Counts are
+ * halved periodically so the view follows the current traffic.
+ */
+public class HotKeySketch {
+
+    public record HotKey(Long id, long estimatedCount) {
+    }
+
+    private final long[][] counts;
+    private final int width;
+    private final int capacity;
+    private final long decayInterval;
+    private final Map<Long, Long> candidates = new HashMap<>();
+    private long additions;
+
+    public HotKeySketch(int width, int depth, int capacity) {
+        this.counts = new long[depth][width];
+        this.width = width;
+        this.capacity = capacity;
+        this.decayInterval = (long) width * 10;
+    }
+
+    public synchronized void add(Long id) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            int column = index(id, row);
+            estimate = Math.min(estimate, ++counts[row][column]);
+        }
+        if (candidates.containsKey(id) || candidates.size() < capacity) {
+            candidates.put(id, estimate);
+        } else {
+            Map.Entry<Long, Long> coldest = candidates.entrySet().stream()
+                    .min(Map.Entry.comparingByValue())
+                    .orElseThrow();
+            if (estimate > coldest.getValue()) {
+                candidates.remove(coldest.getKey());
+                candidates.put(id, estimate);
+            }
+        }
+        if (++additions % decayInterval == 0) {
+            decay();
+        }
+    }
+
+    public synchronized List<HotKey> top(int limit) {
+        List<HotKey> result = new ArrayList<>(candidates.size());
+        candidates.forEach((id, count) -> result.add(new HotKey(id, count)));
+        result.sort(Comparator.comparingLong(HotKey::estimatedCount).reversed());
+        return result.subList(0, Math.min(limit, result.size()));
+    }
+
+    private void decay() {
+        for (long[] row : counts) {
+            for (int column = 0; column < width; column++) {
+                row[column] >>>= 1;
+            }
+        }
+        candidates.replaceAll((id, count) -> count >>> 1);
+    }
+
+    private int index(Long id, int row) {
+        // murmur3 fmix64 over the id salted per row
+        long hash = id ^ (row + 1) * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) width);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.caching.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+@Name("com.example.caching.EntityOperation")
+@Label("Entity Operation")
+@Category("Caching Service")
+@Description("Phase breakdown of an /entities request")
+@Threshold("10 ms")
+class EntityOperationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Cache Lookup")
+    @Timespan
+    long cacheLookup;
+
+    @Label("Repository")
+    @Timespan
+    long repository;
+
+    @Label("Serialization")
+    @Timespan
+    long serialization;
+}
@@ -0,0 +1,68 @@
+package com.example.caching.tracing;
+
+/**
+ * Per-request phase timings, held in a thread local between
+ * {@link TracingFilter} and the code it calls. The static recording methods
+ * are no-ops when no trace is active, so services can call them
+ * unconditionally.
+ */
+public final class OperationTrace {
+
+    public enum Phase {
+        CACHE_LOOKUP, REPOSITORY, SERIALIZATION
+    }
+
+    private static final ThreadLocal<OperationTrace> CURRENT = new ThreadLocal<>();
+
+    private final String operation;
+    private final long startNanos;
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private long serializationStartNanos;
+    private long totalNanos;
+
+    private OperationTrace(String operation, long startNanos) {
+        this.operation = operation;
+        this.startNanos = startNanos;
+    }
+
+    static OperationTrace begin(String operation) {
+        OperationTrace trace = new OperationTrace(operation, System.nanoTime());
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end(OperationTrace trace) {
+        CURRENT.remove();
+        long now = System.nanoTime();
+        if (trace.serializationStartNanos != 0) {
+            trace.phaseNanos[Phase.SERIALIZATION.ordinal()] += now - trace.serializationStartNanos;
+        }
+        trace.totalNanos = now - trace.startNanos;
+    }
+
+    public static void record(Phase phase, long phaseStartNanos) {
+        OperationTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.phaseNanos[phase.ordinal()] += System.nanoTime() - phaseStartNanos;
+        }
+    }
+
+    static void markSerializationStart() {
+        OperationTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+}
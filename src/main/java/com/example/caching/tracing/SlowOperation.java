@@ -0,0 +1,22 @@
+package com.example.caching.tracing;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.example.caching.tracing.OperationTrace.Phase;
+
+public record SlowOperation(Instant timestamp, String operation, double totalMs, Map<Phase, Double> phasesMs) {
+
+    static SlowOperation from(OperationTrace trace) {
+        Map<Phase, Double> phases = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, millis(trace.getPhaseNanos(phase)));
+        }
+        return new SlowOperation(Instant.now(), trace.getOperation(), millis(trace.getTotalNanos()), phases);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.caching.tracing;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@Endpoint(id = "slowops")
+@RequiredArgsConstructor
+public class SlowOperationEndpoint {
+
+    private final SlowOperationLog slowOperationLog;
+
+    @ReadOperation
+    public List<SlowOperation> slowOperations() {
+        return slowOperationLog.snapshot();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowOperationLog.clear();
+    }
+}
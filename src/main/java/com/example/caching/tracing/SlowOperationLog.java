@@ -0,0 +1,61 @@
+package com.example.caching.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fixed-size ring buffer of the most recent operations slower than
+ * {@code tracing.slow-threshold-ms}. Fast operations cost one comparison.
+ */
+@Component
+public class SlowOperationLog {
+
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<SlowOperation> entries;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SlowOperationLog(@Value("${tracing.slow-threshold-ms}") long thresholdMs,
+            @Value("${tracing.slow-log-size}") int size) {
+        if (thresholdMs < 0) {
+            throw new IllegalArgumentException("tracing.slow-threshold-ms must not be negative");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("tracing.slow-log-size must be positive");
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.entries = new AtomicReferenceArray<>(size);
+    }
+
+    public void record(OperationTrace trace) {
+        if (trace.getTotalNanos() < thresholdNanos) {
+            return;
+        }
+        int slot = (int) (sequence.getAndIncrement() % entries.length());
+        entries.set(slot, SlowOperation.from(trace));
+    }
+
+    public List<SlowOperation> snapshot() {
+        List<SlowOperation> result = new ArrayList<>(entries.length());
+        for (int i = 0; i < entries.length(); i++) {
+            SlowOperation entry = entries.get(i);
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        result.sort(Comparator.comparing(SlowOperation::timestamp).reversed());
+        return result;
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+}
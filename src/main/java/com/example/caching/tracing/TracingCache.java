@@ -0,0 +1,100 @@
+package com.example.caching.tracing;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+
+import com.example.caching.tracing.OperationTrace.Phase;
+
+/**
+ * Times lookups against a Spring cache as {@link Phase#CACHE_LOOKUP}. The
+ * {@code @Cacheable} proxy answers repeat reads from here before
+ * CachingService is entered, so without this those requests show no phase
+ * time at all.
+ */
+class TracingCache implements Cache {
+
+    private final Cache delegate;
+
+    TracingCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        long start = System.nanoTime();
+        try {
+            return delegate.get(key);
+        } finally {
+            OperationTrace.record(Phase.CACHE_LOOKUP, start);
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        long start = System.nanoTime();
+        try {
+            return delegate.get(key, type);
+        } finally {
+            OperationTrace.record(Phase.CACHE_LOOKUP, start);
+        }
+    }
+
+    // The loader may hit the repository, so this is not timed as a lookup
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.caching.tracing;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps the auto-configured CacheManager so Spring cache lookups show up in
+ * request traces, leaving the provider itself to Spring Boot.
+ */
+@Component
+public class TracingCacheManagerPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof CacheManager cacheManager && !(bean instanceof TracingCacheManager)) {
+            return new TracingCacheManager(cacheManager);
+        }
+        return bean;
+    }
+}
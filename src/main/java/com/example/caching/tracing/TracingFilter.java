@@ -0,0 +1,48 @@
+package com.example.caching.tracing;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.caching.tracing.OperationTrace.Phase;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final SlowOperationLog slowOperationLog;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/entities");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EntityOperationEvent event = new EntityOperationEvent();
+        event.begin();
+        OperationTrace trace = OperationTrace.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            OperationTrace.end(trace);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = trace.getOperation();
+                event.cacheLookup = trace.getPhaseNanos(Phase.CACHE_LOOKUP);
+                event.repository = trace.getPhaseNanos(Phase.REPOSITORY);
+                event.serialization = trace.getPhaseNanos(Phase.SERIALIZATION);
+                event.commit();
+            }
+            slowOperationLog.record(trace);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.caching.admin;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import com.example.caching.services.CachingService;
+
+@ExtendWith(MockitoExtension.class)
+class CacheAdminEndpointTest {
+
+    @Mock
+    private CachingService cachingService;
+
+    @InjectMocks
+    private CacheAdminEndpoint endpoint;
+
+    @Test
+    void clearGradually_EvictsOnlyTheStartingSnapshotInBatches() {
+        when(cachingService.cachedIds()).thenReturn(List.of(1L, 2L, 3L));
+
+        Map<String, Object> result = endpoint.clearGradually(2, 0L);
+
+        assertEquals(true, result.get("started"));
+        assertEquals(3, result.get("scheduled"));
+        verify(cachingService, timeout(1000)).evict(List.of(1L, 2L));
+        verify(cachingService, timeout(1000)).evict(List.of(3L));
+        verify(cachingService, times(1)).cachedIds();
+    }
+
+    @Test
+    void cancelClear_StopsRunningClear() throws Exception {
+        when(cachingService.cachedIds()).thenReturn(List.of(1L, 2L, 3L));
+        endpoint.clearGradually(1, 60_000L);
+        verify(cachingService, timeout(1000)).evict(List.of(1L));
+
+        Map<String, Object> result = endpoint.cancelClear("clear");
+
+        assertEquals(true, result.get("cancelled"));
+        // The cancelled clear releases its slot, so a new one can start
+        boolean restarted = false;
+        for (int i = 0; i < 100 && !restarted; i++) {
+            restarted = Boolean.TRUE.equals(endpoint.clearGradually(1, 60_000L).get("started"));
+            if (!restarted) {
+                Thread.sleep(10);
+            }
+        }
+        assertTrue(restarted, "Cancelled clear should release the clearing slot");
+        verify(cachingService, never()).evict(List.of(2L));
+        endpoint.cancelClear("clear");
+    }
+
+    @Test
+    void cancelClear_RejectsUnknownOperation() {
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.cancelClear("other"));
+    }
+
+    @Test
+    void summary_RejectsNonPositiveHotKeys() {
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.summary(0));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.summary(-1));
+        verifyNoInteractions(cachingService);
+    }
+}
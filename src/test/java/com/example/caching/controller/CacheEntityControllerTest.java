@@ -3,6 +3,7 @@ package com.example.caching.controller;
 import com.example.caching.exception.CacheException;
 import com.example.caching.exception.EntityNotFoundException;
 import com.example.caching.exception.GlobalExceptionHandler;
+import com.example.caching.exception.VersionConflictException;
 import com.example.caching.model.CustomEntity;
 import com.example.caching.services.CachingService;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +16,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -66,6 +68,18 @@ class CacheEntityControllerTest {
                 .andExpect(content().string("Cache operation failed: Failed to add entity"));
     }
 
+    @Test
+    void addEntity_ClientSuppliedId() throws Exception {
+        when(cachingService.add(any(CustomEntity.class)))
+                .thenThrow(new IllegalArgumentException("ID and version are assigned by the server"));
+
+        mockMvc.perform(post("/entities")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": 1, \"data\": \"Test Data\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid input: ID and version are assigned by the server"));
+    }
+
     @Test
     void getEntity_Success() throws Exception {
         CustomEntity entity = new CustomEntity();
@@ -167,4 +181,64 @@ class CacheEntityControllerTest {
                 .andExpect(status().isServiceUnavailable())
                 .andExpect(content().string("Cache operation failed: Failed to clear cache"));
     }
+
+    @Test
+    void searchEntities_Success() throws Exception {
+        CustomEntity entity = new CustomEntity(1L, "Test Data", 0L);
+
+        when(cachingService.findByDataPrefix("Test")).thenReturn(List.of(entity));
+
+        mockMvc.perform(get("/entities/search").param("prefix", "Test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].data").value("Test Data"));
+    }
+
+    @Test
+    void rangeEntities_InvalidRange() throws Exception {
+        when(cachingService.findByDataRange("Z", "A"))
+                .thenThrow(new IllegalArgumentException("Range start must not be after range end"));
+
+        mockMvc.perform(get("/entities/range").param("from", "Z").param("to", "A"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid input: Range start must not be after range end"));
+    }
+
+    @Test
+    void updateEntity_Success() throws Exception {
+        CustomEntity updated = new CustomEntity(1L, "New Data", 4L);
+
+        when(cachingService.update(1L, "New Data", 3L)).thenReturn(updated);
+
+        mockMvc.perform(put("/entities/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"data\": \"New Data\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void updateEntity_MissingIfMatch() throws Exception {
+        mockMvc.perform(put("/entities/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"data\": \"New Data\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid input: If-Match header with the entity version is required"));
+
+        verify(cachingService, never()).update(any(), any(), any());
+    }
+
+    @Test
+    void updateEntity_VersionConflict() throws Exception {
+        when(cachingService.update(1L, "New Data", 3L))
+                .thenThrow(new VersionConflictException("Entity with ID 1 is at version 4, not 3"));
+
+        mockMvc.perform(put("/entities/1")
+                .header("If-Match", "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"data\": \"New Data\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().string("Version conflict: Entity with ID 1 is at version 4, not 3"));
+    }
 }
\ No newline at end of file
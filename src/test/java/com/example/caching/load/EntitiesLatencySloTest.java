@@ -0,0 +1,50 @@
+package com.example.caching.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.util.List;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.caching.load.LoadGenerator.Operation;
+
+// Run with: ./mvnw test -Pload-test [-Dload.rate=500 -Dload.slo.p99-ms=50 ...]
+@Tag("load")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.com.example.caching=WARN")
+class EntitiesLatencySloTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void entitiesEndpoints_MeetLatencySlo() throws Exception {
+        LoadGenerator generator = new LoadGenerator(URI.create("http://localhost:" + port),
+                LoadGenerator.Settings.fromSystemProperties());
+        List<Long> ids = generator.seed();
+
+        LoadGenerator.Result result = generator.run(ids);
+        result.print(System.out);
+
+        double p99Slo = Double.parseDouble(System.getProperty("load.slo.p99-ms", "100"));
+        double p999Slo = Double.parseDouble(System.getProperty("load.slo.p999-ms", "250"));
+
+        assertEquals(0, result.errors(), "Requests returned an unexpected status or failed");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = result.latencies().get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            double p99 = LoadGenerator.Result.millis(histogram.getValueAtPercentile(99));
+            double p999 = LoadGenerator.Result.millis(histogram.getValueAtPercentile(99.9));
+            assertTrue(p99 <= p99Slo, operation + " p99 " + p99 + "ms exceeds SLO " + p99Slo + "ms");
+            assertTrue(p999 <= p999Slo, operation + " p99.9 " + p999 + "ms exceeds SLO " + p999Slo + "ms");
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.caching.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.example.caching.model.CustomEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Open-model load generator for the /entities endpoints.
+ *
+ * Requests are dispatched at a constant arrival rate regardless of how fast
+ * the server answers, and latency is measured from the intended start time,
+ * so a stalled server shows up in the histogram instead of silently
+ * lowering the offered load (coordinated omission).
+ */
+class LoadGenerator {
+
+    enum Operation {
+        READ_HIT(200), READ_MISS(404), WRITE(200);
+
+        private final int expectedStatus;
+
+        Operation(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+    }
+
+    record Settings(int ratePerSecond, Duration warmup, Duration duration, double writeRatio,
+            double missRatio, int keySpace, long seed, Duration requestTimeout) {
+
+        Settings {
+            if (ratePerSecond <= 0 || ratePerSecond > 1_000_000_000) {
+                throw new IllegalArgumentException("load.rate must be between 1 and 1000000000 requests/s, was "
+                        + ratePerSecond);
+            }
+            if (warmup.isNegative()) {
+                throw new IllegalArgumentException("load.warmup-seconds must not be negative");
+            }
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("load.duration-seconds must be positive");
+            }
+            if (writeRatio < 0 || missRatio < 0 || writeRatio + missRatio > 1) {
+                throw new IllegalArgumentException("load.write-ratio and load.miss-ratio must not be negative "
+                        + "and must add up to at most 1, were " + writeRatio + " and " + missRatio);
+            }
+            if (keySpace <= 0) {
+                throw new IllegalArgumentException("load.key-space must be positive");
+            }
+            if (requestTimeout.isNegative() || requestTimeout.isZero()) {
+                throw new IllegalArgumentException("load.request-timeout-ms must be positive");
+            }
+        }
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("load.rate", 200),
+                    Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5)),
+                    Duration.ofSeconds(Long.getLong("load.duration-seconds", 20)),
+                    Double.parseDouble(System.getProperty("load.write-ratio", "0.1")),
+                    Double.parseDouble(System.getProperty("load.miss-ratio", "0.05")),
+                    Integer.getInteger("load.key-space", 500),
+                    Long.getLong("load.seed", 42),
+                    Duration.ofMillis(Long.getLong("load.request-timeout-ms", 2000)));
+        }
+    }
+
+    // Warmup errors are reported but, like warmup latencies, not held against the SLO
+    record Result(Map<Operation, Histogram> latencies, long errors, long warmupErrors) {
+
+        void print(PrintStream out) {
+            latencies.forEach((operation, histogram) -> out.printf(
+                    "%-9s count=%d p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                    operation, histogram.getTotalCount(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+            out.printf("errors=%d warmupErrors=%d%n", errors, warmupErrors);
+        }
+
+        static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    private static final long MISSING_ID = -1L;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI baseUri;
+    private final Settings settings;
+
+    LoadGenerator(URI baseUri, Settings settings) {
+        this.baseUri = baseUri;
+        this.settings = settings;
+    }
+
+    List<Long> seed() throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(settings.keySpace());
+        for (int i = 0; i < settings.keySpace(); i++) {
+            HttpResponse<String> response = client.send(write("seed-" + i), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != Operation.WRITE.expectedStatus) {
+                throw new IllegalStateException("Seeding entity " + i + " failed with status "
+                        + response.statusCode() + ": " + response.body());
+            }
+            ids.add(objectMapper.readValue(response.body(), CustomEntity.class).getId());
+        }
+        return ids;
+    }
+
+    Result run(List<Long> ids) {
+        Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+        }
+        LongAdder errors = new LongAdder();
+        LongAdder warmupErrors = new LongAdder();
+        SplittableRandom random = new SplittableRandom(settings.seed());
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.ratePerSecond();
+        long warmupRequests = settings.warmup().toNanos() / intervalNanos;
+        long totalRequests = warmupRequests + settings.duration().toNanos() / intervalNanos;
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < totalRequests; i++) {
+                long intendedStart = start + i * intervalNanos;
+                long wait;
+                while ((wait = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = pick(random);
+                HttpRequest request = switch (operation) {
+                    case READ_HIT -> read(ids.get(random.nextInt(ids.size())));
+                    case READ_MISS -> read(MISSING_ID);
+                    case WRITE -> write("load-" + i);
+                };
+                boolean warmup = i < warmupRequests;
+                Histogram histogram = warmup ? null : latencies.get(operation);
+                LongAdder errorCount = warmup ? warmupErrors : errors;
+                executor.execute(() -> send(operation, request, intendedStart, histogram, errorCount));
+            }
+        }
+        return new Result(latencies, errors.sum(), warmupErrors.sum());
+    }
+
+    private Operation pick(SplittableRandom random) {
+        double roll = random.nextDouble();
+        if (roll < settings.writeRatio()) {
+            return Operation.WRITE;
+        }
+        if (roll < settings.writeRatio() + settings.missRatio()) {
+            return Operation.READ_MISS;
+        }
+        return Operation.READ_HIT;
+    }
+
+    // histogram is null for warmup requests, whose latency is not recorded
+    private void send(Operation operation, HttpRequest request, long intendedStart, Histogram histogram,
+            LongAdder errors) {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != operation.expectedStatus) {
+                errors.increment();
+            }
+        } catch (IOException ex) {
+            // Includes HttpTimeoutException, so a stalled server fails the run instead of hanging it
+            errors.increment();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (histogram != null) {
+            histogram.recordValue(System.nanoTime() - intendedStart);
+        }
+    }
+
+    private HttpRequest read(long id) {
+        return HttpRequest.newBuilder(baseUri.resolve("/entities/" + id))
+                .timeout(settings.requestTimeout())
+                .GET()
+                .build();
+    }
+
+    private HttpRequest write(String data) {
+        return HttpRequest.newBuilder(baseUri.resolve("/entities"))
+                .timeout(settings.requestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"data\": \"" + data + "\"}"))
+                .build();
+    }
+}
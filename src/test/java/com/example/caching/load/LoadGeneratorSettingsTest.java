@@ -0,0 +1,34 @@
+package com.example.caching.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class LoadGeneratorSettingsTest {
+
+    private LoadGenerator.Settings settings(int rate, double writeRatio, double missRatio) {
+        return new LoadGenerator.Settings(rate, Duration.ofSeconds(1), Duration.ofSeconds(1), writeRatio,
+                missRatio, 10, 42, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void settings_AcceptsValidMix() {
+        assertDoesNotThrow(() -> settings(200, 0.5, 0.5));
+    }
+
+    @Test
+    void settings_RejectsRateThatBreaksTheInterval() {
+        assertThrows(IllegalArgumentException.class, () -> settings(0, 0.1, 0.1));
+        assertThrows(IllegalArgumentException.class, () -> settings(1_000_000_001, 0.1, 0.1));
+    }
+
+    @Test
+    void settings_RejectsRatiosAboveOne() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> settings(200, 0.7, 0.4));
+
+        assertTrue(exception.getMessage().startsWith("load.write-ratio and load.miss-ratio"));
+    }
+}
@@ -4,14 +4,17 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import com.example.caching.exception.CacheException;
 import com.example.caching.exception.EntityNotFoundException;
+import com.example.caching.exception.VersionConflictException;
 import com.example.caching.model.CustomEntity;
 import com.example.caching.repository.EntityRepository;
 
@@ -21,6 +24,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 @ExtendWith(MockitoExtension.class)
 public class CachingServiceTest {
@@ -28,23 +35,31 @@ public class CachingServiceTest {
     @Mock
     private EntityRepository entityRepository;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    private final Cache springCache = new ConcurrentMapCache("entities");
+
     @InjectMocks
     private CachingService cachingService;
 
     private CustomEntity testEntity;
 
+    private CustomEntity newEntity;
+
     @BeforeEach
     void setUp() {
         testEntity = new CustomEntity();
         testEntity.setId(1L);
         testEntity.setData("Test Data");
+        newEntity = new CustomEntity(null, "Test Data", null);
     }
 
     @Test
     void testAdd_Success() {
         when(entityRepository.save(any(CustomEntity.class))).thenReturn(testEntity);
     
-        CustomEntity result = cachingService.add(testEntity);
+        CustomEntity result = cachingService.add(newEntity);
 
         assertNotNull(result, "The result should not be null");
         assertEquals(testEntity.getId(), result.getId(), "Entity ID should match");
@@ -60,11 +75,24 @@ public class CachingServiceTest {
                 .thenThrow(new RuntimeException("Database error"));
 
         CacheException exception = assertThrows(CacheException.class, () -> {
-            cachingService.add(testEntity);
+            cachingService.add(newEntity);
         });
 
         assertEquals("Failed to add entity to cache and database", exception.getMessage());
-        verify(entityRepository).save(testEntity);
+        verify(entityRepository).save(newEntity);
+    }
+
+    @Test
+    void testAdd_RejectsClientSuppliedIdOrVersion() {
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            cachingService.add(testEntity);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            cachingService.add(new CustomEntity(null, "Test Data", 3L));
+        });
+
+        verify(entityRepository, never()).save(any(CustomEntity.class));
     }
 
     @Test
@@ -234,32 +262,299 @@ public class CachingServiceTest {
     }
 
     @Test
-    void testEvictToDatabase_Success() throws Exception {
-        // crying bc private method
-        when(entityRepository.save(testEntity)).thenReturn(testEntity);
+    void testEvictToDatabase_Failure() {
+
+        when(entityRepository.save(any(CustomEntity.class)))
+                .thenThrow(new RuntimeException("Database error"));
+
+        CacheException exception = assertThrows(CacheException.class, () -> {
+            cachingService.add(newEntity);
+        });
+
+        assertEquals("Failed to add entity to cache and database", exception.getMessage());
+        verify(entityRepository).save(newEntity);
+    }
+
+    @Test
+    void testFindByDataPrefix_ServedFromQueryCache() throws Exception {
+        Field maxQueryEntriesField = CachingService.class.getDeclaredField("maxQueryEntries");
+        maxQueryEntriesField.setAccessible(true);
+        maxQueryEntriesField.setInt(cachingService, 10);
 
+        when(entityRepository.findByDataStartingWithOrderByDataAsc("Test"))
+                .thenReturn(List.of(testEntity));
 
-        Method evictToDatabaseMethod =
-                CachingService.class.getDeclaredMethod("evictToDatabase", CustomEntity.class);
+        List<CustomEntity> first = cachingService.findByDataPrefix("Test");
+        List<CustomEntity> second = cachingService.findByDataPrefix("Test");
 
-        evictToDatabaseMethod.setAccessible(true);
+        assertEquals(1, first.size());
+        assertEquals(first, second);
+        verify(entityRepository, times(1)).findByDataStartingWithOrderByDataAsc("Test");
+    }
 
-        evictToDatabaseMethod.invoke(cachingService, testEntity);
-        verify(entityRepository).save(testEntity);
+    @Test
+    void testFindByDataPrefix_InvalidatedOnWrite() throws Exception {
+        Field maxQueryEntriesField = CachingService.class.getDeclaredField("maxQueryEntries");
+        maxQueryEntriesField.setAccessible(true);
+        maxQueryEntriesField.setInt(cachingService, 10);
+
+        when(entityRepository.findByDataStartingWithOrderByDataAsc("Test"))
+                .thenReturn(List.of(testEntity));
+        when(entityRepository.save(any(CustomEntity.class))).thenReturn(testEntity);
+
+        cachingService.findByDataPrefix("Test");
+        cachingService.add(newEntity);
+        cachingService.findByDataPrefix("Test");
 
+        verify(entityRepository, times(2)).findByDataStartingWithOrderByDataAsc("Test");
     }
 
     @Test
-    void testEvictToDatabase_Failure() {
+    void testFindByDataPrefix_Failure() {
 
-        when(entityRepository.save(any(CustomEntity.class)))
+        when(entityRepository.findByDataStartingWithOrderByDataAsc("Test"))
                 .thenThrow(new RuntimeException("Database error"));
 
         CacheException exception = assertThrows(CacheException.class, () -> {
-            cachingService.add(testEntity);
+            cachingService.findByDataPrefix("Test");
         });
 
-        assertEquals("Failed to add entity to cache and database", exception.getMessage());
-        verify(entityRepository).save(testEntity);
+        assertEquals("Failed to find entities by data prefix", exception.getMessage());
+    }
+
+    @Test
+    void testFindByDataRange_Success() {
+
+        when(entityRepository.findByDataBetweenOrderByDataAsc("A", "Z"))
+                .thenReturn(List.of(testEntity));
+
+        List<CustomEntity> result = cachingService.findByDataRange("A", "Z");
+
+        assertEquals(1, result.size());
+        verify(entityRepository).findByDataBetweenOrderByDataAsc("A", "Z");
+    }
+
+    @Test
+    void testFindByDataRange_DistinctRangesDoNotShareCacheEntry() throws Exception {
+        Field maxQueryEntriesField = CachingService.class.getDeclaredField("maxQueryEntries");
+        maxQueryEntriesField.setAccessible(true);
+        maxQueryEntriesField.setInt(cachingService, 10);
+
+        CustomEntity other = new CustomEntity(2L, "Other Data", 0L);
+        when(entityRepository.findByDataBetweenOrderByDataAsc("a..b", "c")).thenReturn(List.of(testEntity));
+        when(entityRepository.findByDataBetweenOrderByDataAsc("a", "b..c")).thenReturn(List.of(other));
+
+        assertEquals(List.of(testEntity), cachingService.findByDataRange("a..b", "c"));
+        assertEquals(List.of(other), cachingService.findByDataRange("a", "b..c"));
+    }
+
+    @Test
+    void testFindByDataPrefix_ReturnsUnmodifiableResult() {
+
+        when(entityRepository.findByDataStartingWithOrderByDataAsc("Test"))
+                .thenReturn(new ArrayList<>(List.of(testEntity)));
+
+        List<CustomEntity> result = cachingService.findByDataPrefix("Test");
+
+        assertThrows(UnsupportedOperationException.class, () -> result.add(testEntity));
+    }
+
+    @Test
+    void testFindByDataRange_InvalidRange() {
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            cachingService.findByDataRange("Z", "A");
+        });
+
+        verify(entityRepository, never()).findByDataBetweenOrderByDataAsc(any(), any());
+    }
+
+    private void cacheEntities(long... ids) throws Exception {
+        Field maxElementsField = CachingService.class.getDeclaredField("maxElements");
+        maxElementsField.setAccessible(true);
+        maxElementsField.setInt(cachingService, 10);
+        for (long id : ids) {
+            CustomEntity entity = new CustomEntity(id, "Data " + id, 0L);
+            when(entityRepository.findById(id)).thenReturn(Optional.of(entity));
+            cachingService.get(id);
+        }
+    }
+
+    private void springCacheEntities(long... ids) {
+        for (long id : ids) {
+            springCache.put(id, new CustomEntity(id, "Data " + id, 0L));
+        }
+    }
+
+    @Test
+    void testInvalidateRange_RemovesIdsInRangeFromBothLayers() throws Exception {
+        cacheEntities(1L, 2L, 3L, 4L);
+        springCacheEntities(1L, 2L, 3L, 4L, 500L);
+        when(cacheManager.getCache("entities")).thenReturn(springCache);
+
+        int invalidated = cachingService.invalidateRange(2L, 1000L);
+
+        assertEquals(4, invalidated);
+        assertEquals(1, cachingService.size());
+        assertEquals(1, cachingService.springCacheSize());
+        assertTrue(cachingService.peek(1L).isPresent());
+        assertTrue(cachingService.peekSpringCache(1L).isPresent());
+        assertTrue(cachingService.peek(2L).isEmpty());
+        assertTrue(cachingService.peekSpringCache(500L).isEmpty());
+    }
+
+    @Test
+    void testInvalidateRange_InvalidRange() {
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            cachingService.invalidateRange(3L, 1L);
+        });
+    }
+
+    @Test
+    void testCachedIds_LeastRecentlyUsedFirstThenSpringOnly() throws Exception {
+        cacheEntities(1L, 2L, 3L);
+        springCacheEntities(1L, 2L, 3L, 4L, 5L);
+        when(cacheManager.getCache("entities")).thenReturn(springCache);
+        cachingService.get(1L);
+
+        List<Long> ids = cachingService.cachedIds();
+
+        assertEquals(List.of(2L, 3L, 1L), ids.subList(0, 3));
+        assertEquals(Set.of(4L, 5L), Set.copyOf(ids.subList(3, 5)));
+    }
+
+    @Test
+    void testPeek_DoesNotChangeLruOrder() throws Exception {
+        cacheEntities(1L, 2L, 3L);
+
+        assertTrue(cachingService.peek(1L).isPresent());
+
+        assertEquals(List.of(1L, 2L, 3L), cachingService.cachedIds());
+    }
+
+    @Test
+    void testEvict_RemovesFromBothLayers() throws Exception {
+        cacheEntities(1L, 2L, 3L);
+        springCacheEntities(1L, 2L, 3L, 4L);
+        when(cacheManager.getCache("entities")).thenReturn(springCache);
+
+        cachingService.evict(List.of(1L, 4L));
+
+        assertEquals(2, cachingService.size());
+        assertEquals(2, cachingService.springCacheSize());
+        assertTrue(cachingService.peekSpringCache(4L).isEmpty());
+        assertTrue(cachingService.peek(2L).isPresent());
+    }
+
+    @Test
+    void testEntrySizeHistogram() throws Exception {
+        cacheEntities(1L, 2L);
+
+        Map<String, Integer> histogram = cachingService.entrySizeHistogram();
+
+        assertEquals(Map.of("<=16B", 2), histogram);
+    }
+
+    @Test
+    void testSpringCacheEntrySizeHistogram() {
+        springCacheEntities(1L, 2L);
+        springCache.put(3L, new CustomEntity(3L, "x".repeat(100), 0L));
+        when(cacheManager.getCache("entities")).thenReturn(springCache);
+
+        Map<String, Integer> histogram = cachingService.springCacheEntrySizeHistogram();
+
+        assertEquals(Map.of("<=16B", 2, "<=128B", 1), histogram);
+    }
+
+    @Test
+    void testHotKeys_RecordsAccesses() {
+        for (int i = 0; i < 5; i++) {
+            cachingService.recordAccess(7L);
+        }
+        cachingService.recordAccess(8L);
+
+        List<HotKeySketch.HotKey> hotKeys = cachingService.hotKeys(1);
+
+        assertEquals(1, hotKeys.size());
+        assertEquals(7L, hotKeys.get(0).id());
+        assertEquals(5, hotKeys.get(0).estimatedCount());
+    }
+
+    @Test
+    void testEviction_DoesNotWriteToDatabase() throws Exception {
+        cacheEntities(1L);
+        Field maxElementsField = CachingService.class.getDeclaredField("maxElements");
+        maxElementsField.setAccessible(true);
+        maxElementsField.setInt(cachingService, 1);
+        when(entityRepository.findById(2L)).thenReturn(Optional.of(new CustomEntity(2L, "Data 2", 0L)));
+
+        cachingService.get(2L);
+
+        assertTrue(cachingService.peek(1L).isEmpty());
+        verify(entityRepository, never()).save(any(CustomEntity.class));
+    }
+
+    @Test
+    void testUpdate_Success() throws Exception {
+        cacheEntities(1L);
+        CustomEntity saved = new CustomEntity(1L, "New Data", 1L);
+        when(entityRepository.save(new CustomEntity(1L, "New Data", 0L))).thenReturn(saved);
+
+        CustomEntity result = cachingService.update(1L, "New Data", 0L);
+
+        assertEquals(1L, result.getVersion());
+        assertEquals(saved, cachingService.peek(1L).orElseThrow());
+        // Only the load in cacheEntities, the update used the cached version
+        verify(entityRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testUpdate_StaleVersionRejectedWithoutWrite() throws Exception {
+        when(entityRepository.findById(1L)).thenReturn(Optional.of(new CustomEntity(1L, "Test Data", 3L)));
+        cachingService.get(1L);
+
+        assertThrows(VersionConflictException.class, () -> {
+            cachingService.update(1L, "New Data", 1L);
+        });
+
+        assertTrue(cachingService.peek(1L).isEmpty());
+        verify(entityRepository, never()).save(any(CustomEntity.class));
+    }
+
+    @Test
+    void testUpdate_CachedCopyOlderThanIfMatchDefersToDatabase() throws Exception {
+        cacheEntities(1L);
+        CustomEntity saved = new CustomEntity(1L, "New Data", 2L);
+        when(entityRepository.save(new CustomEntity(1L, "New Data", 1L))).thenReturn(saved);
+
+        CustomEntity result = cachingService.update(1L, "New Data", 1L);
+
+        assertEquals(2L, result.getVersion());
+        assertEquals(saved, cachingService.peek(1L).orElseThrow());
+    }
+
+    @Test
+    void testUpdate_ConcurrentModification() {
+        CustomEntity current = new CustomEntity(1L, "Test Data", 0L);
+        when(entityRepository.findById(1L)).thenReturn(Optional.of(current));
+        when(entityRepository.save(any(CustomEntity.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(CustomEntity.class, 1L));
+
+        VersionConflictException exception = assertThrows(VersionConflictException.class, () -> {
+            cachingService.update(1L, "New Data", 0L);
+        });
+
+        assertEquals("Entity with ID 1 was modified concurrently", exception.getMessage());
+    }
+
+    @Test
+    void testUpdate_EntityNotFound() {
+
+        when(entityRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> {
+            cachingService.update(1L, "New Data", 0L);
+        });
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.caching.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HotKeySketchTest {
+
+    @Test
+    void top_ReturnsMostFrequentKeysFirst() {
+        HotKeySketch sketch = new HotKeySketch(256, 4, 8);
+        for (long id = 0; id < 100; id++) {
+            sketch.add(id);
+        }
+        for (int i = 0; i < 50; i++) {
+            sketch.add(42L);
+            if (i % 2 == 0) {
+                sketch.add(7L);
+            }
+        }
+
+        List<HotKeySketch.HotKey> top = sketch.top(2);
+
+        assertEquals(42L, top.get(0).id());
+        assertEquals(7L, top.get(1).id());
+        assertTrue(top.get(0).estimatedCount() >= 51);
+    }
+
+    @Test
+    void top_CandidateSetIsBounded() {
+        HotKeySketch sketch = new HotKeySketch(256, 4, 4);
+        for (long id = 0; id < 100; id++) {
+            sketch.add(id);
+        }
+
+        assertEquals(4, sketch.top(10).size());
+    }
+
+    @Test
+    void add_DecaysCountsOverTime() {
+        HotKeySketch sketch = new HotKeySketch(16, 2, 4);
+        for (int i = 0; i < 160; i++) {
+            sketch.add(1L);
+        }
+
+        assertEquals(80, sketch.top(1).get(0).estimatedCount());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.caching.tracing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.caching.tracing.OperationTrace.Phase;
+
+class SlowOperationLogTest {
+
+    private OperationTrace traceOf(String operation, long sleepMs) throws InterruptedException {
+        OperationTrace trace = OperationTrace.begin(operation);
+        long start = System.nanoTime();
+        Thread.sleep(sleepMs);
+        OperationTrace.record(Phase.REPOSITORY, start);
+        OperationTrace.end(trace);
+        return trace;
+    }
+
+    @Test
+    void record_IgnoresFastOperations() throws Exception {
+        SlowOperationLog log = new SlowOperationLog(1000, 4);
+
+        log.record(traceOf("GET /entities/1", 0));
+
+        assertTrue(log.snapshot().isEmpty());
+    }
+
+    @Test
+    void record_KeepsSlowOperationsWithPhases() throws Exception {
+        SlowOperationLog log = new SlowOperationLog(5, 4);
+
+        log.record(traceOf("GET /entities/1", 10));
+
+        List<SlowOperation> snapshot = log.snapshot();
+        assertEquals(1, snapshot.size());
+        assertEquals("GET /entities/1", snapshot.get(0).operation());
+        assertTrue(snapshot.get(0).phasesMs().get(Phase.REPOSITORY) >= 10);
+        assertTrue(snapshot.get(0).totalMs() >= snapshot.get(0).phasesMs().get(Phase.REPOSITORY));
+    }
+
+    @Test
+    void record_OverwritesOldestWhenFull() throws Exception {
+        SlowOperationLog log = new SlowOperationLog(0, 2);
+
+        log.record(traceOf("GET /entities/1", 0));
+        log.record(traceOf("GET /entities/2", 0));
+        log.record(traceOf("GET /entities/3", 0));
+
+        List<String> operations = log.snapshot().stream().map(SlowOperation::operation).toList();
+        assertEquals(2, operations.size());
+        assertFalse(operations.contains("GET /entities/1"));
+    }
+
+    @Test
+    void constructor_RejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new SlowOperationLog(50, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SlowOperationLog(-1, 4));
+    }
+
+    @Test
+    void record_NoActiveTraceIsNoOp() {
+        assertDoesNotThrow(() -> OperationTrace.record(Phase.CACHE_LOOKUP, System.nanoTime()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.caching.tracing;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.caching.tracing.OperationTrace.Phase;
+
+class TracingFilterTest {
+
+    private final SlowOperationLog slowOperationLog = new SlowOperationLog(0, 4);
+
+    private final TracingFilter filter = new TracingFilter(slowOperationLog);
+
+    @Test
+    void doFilter_RecordsSpringCacheLookupForCachedRead() throws Exception {
+        Cache target = mock(Cache.class);
+        when(target.get(1L)).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return null;
+        });
+        CacheManager delegate = mock(CacheManager.class);
+        when(delegate.getCache("entities")).thenReturn(target);
+        Cache entities = new TracingCacheManager(delegate).getCache("entities");
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/entities/1"), new MockHttpServletResponse(),
+                (request, response) -> entities.get(1L));
+
+        List<SlowOperation> operations = slowOperationLog.snapshot();
+        assertEquals(1, operations.size());
+        assertEquals("GET /entities/1", operations.get(0).operation());
+        assertTrue(operations.get(0).phasesMs().get(Phase.CACHE_LOOKUP) >= 5);
+        assertEquals(0.0, operations.get(0).phasesMs().get(Phase.REPOSITORY));
+    }
+
+    @Test
+    void doFilter_RecordsRepositoryPhase() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("POST", "/entities"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    long start = System.nanoTime();
+                    while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(5)) {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    }
+                    OperationTrace.record(Phase.REPOSITORY, start);
+                });
+
+        SlowOperation operation = slowOperationLog.snapshot().get(0);
+        assertTrue(operation.phasesMs().get(Phase.REPOSITORY) >= 5);
+        assertTrue(operation.totalMs() >= operation.phasesMs().get(Phase.REPOSITORY));
+    }
+
+    @Test
+    void doFilter_SkipsNonEntityRequests() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(),
+                (request, response) -> {
+                });
+
+        assertTrue(slowOperationLog.snapshot().isEmpty());
+    }
+
+    @Test
+    void tracingCacheManager_KeepsNativeCache() {
+        ConcurrentMapCacheManager delegate = new ConcurrentMapCacheManager("entities");
+
+        Cache entities = new TracingCacheManager(delegate).getCache("entities");
+
+        assertSame(delegate.getCache("entities").getNativeCache(), entities.getNativeCache());
+    }
+}